@@ -0,0 +1,35 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(name = "app.compression.enabled", havingValue = "true", matchIfMissing = true)
+public class CompressionConfig {
+
+    // Preference order; the first one the client accepts wins
+    @Value("${app.compression.algorithms:zstd,gzip,deflate}")
+    private List<String> algorithms;
+
+    @Value("${app.compression.min-response-size:2048}")
+    private int minResponseSize;
+
+    @Value("${app.compression.mime-types:application/json,text/plain}")
+    private List<String> mimeTypes;
+
+    @Bean
+    public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter() {
+        ResponseCompressionFilter filter = new ResponseCompressionFilter(
+                algorithms.stream().map(ResponseCompressionFilter.Algorithm::fromToken).toList(),
+                minResponseSize,
+                ResponseCompressionFilter.parseMimeTypes(mimeTypes));
+        FilterRegistrationBean<ResponseCompressionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.demo.config;
 
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients; // <--- IMPORT THIS
 import com.mongodb.client.MongoDatabase;
@@ -13,6 +16,9 @@ import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.handler.MappedInterceptor;
 
+import java.util.List;
+import java.util.Locale;
+
 @Configuration
 public class MultiTenantConfig {
 
@@ -23,10 +29,30 @@ public class MultiTenantConfig {
     @Value("${spring.data.mongodb.uri}")
     private String mongoUri;
 
+    // Offered to the server in preference order; the server picks the first it supports.
+    // A compressors= option in spring.data.mongodb.uri takes precedence over this list.
+    @Value("${app.mongodb.compressors:zstd,snappy,zlib}")
+    private List<String> mongoCompressors;
+
     // --- NEW: Manually Create the MongoClient ---
     @Bean
     public MongoClient mongoClient() {
-        return MongoClients.create(mongoUri);
+        ConnectionString connectionString = new ConnectionString(mongoUri);
+        MongoClientSettings.Builder settings = MongoClientSettings.builder()
+                .applyConnectionString(connectionString);
+        if (connectionString.getCompressorList().isEmpty() && !mongoCompressors.isEmpty()) {
+            settings.compressorList(mongoCompressors.stream().map(MultiTenantConfig::compressor).toList());
+        }
+        return MongoClients.create(settings.build());
+    }
+
+    private static MongoCompressor compressor(String name) {
+        return switch (name.trim().toLowerCase(Locale.ROOT)) {
+            case "zstd" -> MongoCompressor.createZstdCompressor();
+            case "snappy" -> MongoCompressor.createSnappyCompressor();
+            case "zlib" -> MongoCompressor.createZlibCompressor();
+            default -> throw new IllegalArgumentException("Unsupported MongoDB wire compressor: " + name);
+        };
     }
 
     // 2. Interceptor (Updated with exclusion)
@@ -0,0 +1,557 @@
+package com.example.demo.config;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses responses on the fly. Only the first {@code minResponseSize}
+ * bytes are held back to decide whether compression is worth it; after that
+ * the body streams straight through the compressor, so large {@code getUsers}
+ * responses are never buffered in full.
+ *
+ * <p>Non-blocking writes are not compressed: registering a
+ * {@link WriteListener} before any body byte goes out sends the response
+ * uncompressed and hands the listener to the container's stream; doing it
+ * once compression has started fails with {@link IllegalStateException}.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    public enum Algorithm {
+        GZIP("gzip"), DEFLATE("deflate"), ZSTD("zstd");
+
+        private final String token;
+
+        Algorithm(String token) {
+            this.token = token;
+        }
+
+        public String token() {
+            return token;
+        }
+
+        public static Algorithm fromToken(String token) {
+            for (Algorithm algorithm : values()) {
+                if (algorithm.token.equalsIgnoreCase(token.trim())) {
+                    return algorithm;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported response compression algorithm: " + token);
+        }
+
+        OutputStream wrap(OutputStream out) throws IOException {
+            // Sync-flush so an explicit flush pushes compressed bytes to the client immediately
+            return switch (this) {
+                case GZIP -> new GZIPOutputStream(out, true);
+                case DEFLATE -> new DeflaterOutputStream(out, true);
+                case ZSTD -> new ZstdOutputStream(out);
+            };
+        }
+    }
+
+    private final List<Algorithm> algorithms;
+    private final int minResponseSize;
+    private final Set<MediaType> mimeTypes;
+
+    public ResponseCompressionFilter(List<Algorithm> algorithms, int minResponseSize, Set<MediaType> mimeTypes) {
+        this.algorithms = List.copyOf(algorithms);
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = Set.copyOf(mimeTypes);
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        // Async handlers (StreamingResponseBody, DeferredResult, Callable) finish on a later dispatch
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(response, CompressingResponseWrapper.class);
+        if (wrapper == null) {
+            if (isAsyncDispatch(request)) {
+                // The initial dispatch decided not to compress this response
+                chain.doFilter(request, response);
+                return;
+            }
+            Algorithm algorithm = negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (algorithm == null || "HEAD".equals(request.getMethod())) {
+                chain.doFilter(request, response);
+                return;
+            }
+            wrapper = new CompressingResponseWrapper(response, algorithm);
+            response = wrapper;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } catch (Throwable ex) {
+            // Never complete a half-written body: held-back bytes stay uncommitted so the
+            // container can still send its error, and a started stream gets no trailer
+            wrapper.abandon();
+            throw ex;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new FinishOnComplete(wrapper));
+        } else {
+            wrapper.finish();
+        }
+    }
+
+    Algorithm negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return null;
+        }
+        Map<String, Double> qualities = new HashMap<>();
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.isEmpty()) {
+                qualities.put(coding, quality(tokens));
+            }
+        }
+        Double wildcard = qualities.get("*");
+        for (Algorithm algorithm : algorithms) {
+            // An explicit entry for the coding wins over the wildcard, so "zstd;q=0, *" refuses zstd
+            Double quality = qualities.getOrDefault(algorithm.token(), wildcard);
+            if (quality != null && quality > 0) {
+                return algorithm;
+            }
+        }
+        return null;
+    }
+
+    private static double quality(String[] tokens) {
+        for (int i = 1; i < tokens.length; i++) {
+            String param = tokens[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(candidate -> candidate.includes(type));
+    }
+
+    private class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final Algorithm algorithm;
+        private ThresholdOutputStream stream;
+        private PrintWriter writer;
+        private boolean outputStreamUsed;
+        private long contentLength = -1;
+        private boolean finished;
+
+        CompressingResponseWrapper(HttpServletResponse response, Algorithm algorithm) {
+            super(response);
+            this.algorithm = algorithm;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            outputStreamUsed = true;
+            return stream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStreamUsed) {
+                    throw new IllegalStateException("getOutputStream() has already been called for this response");
+                }
+                writer = newWriter();
+            }
+            return writer;
+        }
+
+        @Override
+        public void resetBuffer() {
+            discardBody();
+            super.resetBuffer();
+            if (stream != null) {
+                stream.restart();
+            }
+        }
+
+        @Override
+        public void reset() {
+            discardBody();
+            super.reset();
+            contentLength = -1;
+            // Like the container, allow switching between writer and output stream after a reset
+            writer = null;
+            outputStreamUsed = false;
+            addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (stream != null) {
+                stream.clear();
+            }
+        }
+
+        private void discardBody() {
+            if (isCommitted()) {
+                throw new IllegalStateException("Cannot reset the buffer of a committed response");
+            }
+            if (writer != null) {
+                // Characters still buffered in the writer belong to the discarded body
+                writer = newWriter();
+            }
+            if (stream != null) {
+                stream.discard();
+            }
+        }
+
+        private PrintWriter newWriter() {
+            return new PrintWriter(new OutputStreamWriter(stream(), Charset.forName(getCharacterEncoding())));
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            contentLength = len;
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = value != null ? Long.parseLong(value) : -1;
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                contentLength = Long.parseLong(value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (stream != null) {
+                stream.flush();
+            }
+        }
+
+        private ThresholdOutputStream stream() {
+            if (stream == null) {
+                stream = new ThresholdOutputStream(this);
+            }
+            return stream;
+        }
+
+        /** Sets the headers for the decision and returns the container's stream. */
+        ServletOutputStream start(boolean compress) throws IOException {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (compress) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, algorithm.token());
+            } else if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            }
+            return response.getOutputStream();
+        }
+
+        boolean shouldCompress() {
+            return (contentLength < 0 || contentLength >= minResponseSize)
+                    && !containsHeader(HttpHeaders.CONTENT_ENCODING)
+                    && getStatus() != HttpServletResponse.SC_NO_CONTENT
+                    && getStatus() != HttpServletResponse.SC_NOT_MODIFIED
+                    && isCompressible(getContentType());
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (writer != null) {
+                writer.flush();
+            }
+            if (stream != null) {
+                stream.finish();
+            } else if (contentLength >= 0) {
+                getResponse().setContentLengthLong(contentLength);
+            }
+        }
+
+        /**
+         * Ends the response after the handler failed: characters still in the
+         * writer and bytes held back below the threshold are dropped, and a
+         * running compressor is released without writing its trailer.
+         */
+        void abandon() {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (stream != null) {
+                stream.abandon();
+            }
+        }
+    }
+
+    private class ThresholdOutputStream extends ServletOutputStream {
+
+        private final CompressingResponseWrapper response;
+        private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private OutputStream target;
+        private DetachableOutputStream sink;
+        private boolean compressing;
+        private boolean nonBlocking;
+        private boolean finished;
+
+        ThresholdOutputStream(CompressingResponseWrapper response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("Response has already been completed");
+            }
+            if (target != null) {
+                target.write(b, off, len);
+                return;
+            }
+            pending.write(b, off, len);
+            if (pending.size() >= minResponseSize) {
+                start(response.shouldCompress());
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // Below the threshold a flush would commit the response before we know whether to compress
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            if (target == null) {
+                start(false);
+            }
+            finished = true;
+            if (compressing) {
+                target.close();
+            } else if (!nonBlocking) {
+                // A non-blocking stream may not be ready; the container flushes it on completion
+                target.flush();
+            }
+        }
+
+        /** Drops everything written so far, releasing a running compressor without its trailer. */
+        void discard() {
+            if (compressing) {
+                releaseCompressor();
+            }
+            if (pending != null) {
+                pending.reset();
+            }
+        }
+
+        void abandon() {
+            discard();
+            finished = true;
+        }
+
+        /**
+         * After {@code resetBuffer()} the headers are kept, so a response that
+         * was already being compressed continues with a fresh compressor.
+         */
+        void restart() {
+            try {
+                if (compressing) {
+                    target = compressor(response.getResponse().getOutputStream());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * After {@code reset()} the headers are gone too, so the compression
+         * decision is made again from scratch.
+         */
+        void clear() {
+            target = null;
+            compressing = false;
+            pending = new ByteArrayOutputStream();
+        }
+
+        private void start(boolean compress) throws IOException {
+            compressing = compress;
+            ServletOutputStream out = response.start(compress);
+            target = compress ? compressor(out) : out;
+            pending.writeTo(target);
+            pending = null;
+        }
+
+        private OutputStream compressor(OutputStream out) throws IOException {
+            // The container owns the servlet stream; closing the compressor only ends the encoded body
+            sink = new DetachableOutputStream(out);
+            return response.algorithm.wrap(sink);
+        }
+
+        private void releaseCompressor() {
+            sink.detach();
+            try {
+                // Frees the codec; its trailer goes nowhere
+                target.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return !nonBlocking || ((ServletOutputStream) target).isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            if (compressing) {
+                throw new IllegalStateException("Non-blocking writes are not supported on a compressed response");
+            }
+            try {
+                if (target == null) {
+                    start(false);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            nonBlocking = true;
+            ((ServletOutputStream) target).setWriteListener(listener);
+        }
+    }
+
+    /** Forwards to the servlet stream until detached, and never closes it. */
+    private static final class DetachableOutputStream extends OutputStream {
+
+        private OutputStream out;
+
+        DetachableOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        void detach() {
+            out = OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class FinishOnComplete implements AsyncListener {
+
+        private final CompressingResponseWrapper wrapper;
+
+        FinishOnComplete(CompressingResponseWrapper wrapper) {
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            // No-op when an async dispatch through this filter already finished the response
+            wrapper.finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    static Set<MediaType> parseMimeTypes(List<String> mimeTypes) {
+        return mimeTypes.stream()
+                .map(type -> MediaType.parseMediaType(type.trim().toLowerCase(Locale.ROOT)))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -2,6 +2,8 @@ package com.example.demo.controller;
 
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.search.UserSearchIndex;
+import com.example.demo.search.UserSuggestion;
 import com.fasterxml.uuid.Generators;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,16 +16,22 @@ import java.util.UUID;
 @RestController
 public class UserController {
 
+    private static final int MAX_SEARCH_LIMIT = 50;
+
     private final UserRepository userRepository;
+    private final UserSearchIndex userSearchIndex;
 
-    public UserController(UserRepository userRepository) {
+    public UserController(UserRepository userRepository, UserSearchIndex userSearchIndex) {
         this.userRepository = userRepository;
+        this.userSearchIndex = userSearchIndex;
     }
 
     @PostMapping("/api/{tenantId}/users")
     public User createUser(@PathVariable String tenantId, @RequestBody User user) {
         // Validation: Ensure the URL tenant matches any payload requirements if needed
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userSearchIndex.onUserCreated(tenantId, saved);
+        return saved;
     }
 
     @GetMapping("/api/{tenantId}/users")
@@ -32,6 +40,18 @@ public class UserController {
         return userRepository.findAll();
     }
 
+    @GetMapping("/api/{tenantId}/users/search")
+    public List<UserSuggestion> searchUsers(@PathVariable String tenantId,
+                                  @RequestParam String prefix,
+                                  @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        // Index is loaded from the tenant's database on first use, then served from memory
+        return userSearchIndex.search(tenantId, prefix, Math.min(limit, MAX_SEARCH_LIMIT),
+                userRepository::findAll, userRepository::findByNameOrEmailPrefix);
+    }
+
 
     @GetMapping("/api/generate-org-id")
     public String generateOrgId() {
@@ -1,7 +1,23 @@
 package com.example.demo.repository;
 
 import com.example.demo.model.User;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.util.List;
+import java.util.regex.Pattern;
 
 // 3. Repository Interface
-public interface UserRepository extends MongoRepository<User, String> {}
\ No newline at end of file
+public interface UserRepository extends MongoRepository<User, String> {
+
+    @Query("{ '$or': [ { 'name': { '$regex': ?0, '$options': 'i' } }, { 'email': { '$regex': ?0, '$options': 'i' } } ] }")
+    List<User> findByNameOrEmailMatching(String regex, Pageable pageable);
+
+    // Typeahead for tenants too large for the in-memory index: a bounded query instead of findAll()
+    default List<User> findByNameOrEmailPrefix(String prefix, int limit) {
+        return findByNameOrEmailMatching("^" + Pattern.quote(prefix), PageRequest.of(0, limit, Sort.by("name")));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,333 @@
+package com.example.demo.search;
+
+import com.example.demo.model.User;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix index over the lower-cased {@code name} and {@code email} of one
+ * tenant's users.
+ *
+ * <p>Keys live in a large sorted base array plus a small sorted delta that
+ * takes new keys; the delta is merged into the base once it grows past about
+ * {@code sqrt(n)} entries, so an insert costs {@code O(sqrt n)} amortised
+ * instead of a full copy. Every key entry carries its slot's version; an
+ * update bumps the version, which hides the old keys until the next merge
+ * drops them.
+ */
+final class TenantPrefixIndex {
+
+    private static final int MIN_DELTA_CAPACITY = 64;
+
+    // Compressed-oops sizes: a String object plus its byte[] header
+    private static final long STRING_OVERHEAD_BYTES = 24 + 16;
+    // id, name and email references plus the version int
+    private static final long SLOT_BYTES = 3 * 4 + 4;
+    // key reference plus slot and version ints
+    private static final long ENTRY_BYTES = 4 + 4 + 4;
+    // HashMap node, boxed Integer and table slot
+    private static final long ID_MAP_ENTRY_BYTES = 32 + 16 + 8;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private String[] ids = new String[0];
+    private String[] names = new String[0];
+    private String[] emails = new String[0];
+    private int[] versions = new int[0];
+    private int size;
+    private final Map<String, Integer> slotById = new HashMap<>();
+
+    private Keys base = new Keys(0);
+    private Keys delta = new Keys(MIN_DELTA_CAPACITY);
+    private int staleEntries;
+    private long stringBytes;
+
+    private volatile long lastAccessNanos = System.nanoTime();
+
+    TenantPrefixIndex(Collection<User> users) {
+        grow(users.size());
+        Keys initial = new Keys(users.size() * 2);
+        for (User user : users) {
+            int slot = upsertSlot(user);
+            if (slot >= 0) {
+                addKeys(initial, slot);
+            }
+        }
+        initial.sort();
+        base = initial;
+        // Duplicate ids in the input leave stale entries behind; drop them now
+        if (staleEntries > 0) {
+            merge();
+        }
+    }
+
+    List<UserSuggestion> search(String prefix, int limit) {
+        lastAccessNanos = System.nanoTime();
+        String needle = prefix.toLowerCase(Locale.ROOT);
+        List<UserSuggestion> matches = new ArrayList<>(Math.min(limit, 16));
+        int[] matchedSlots = new int[limit];
+
+        lock.readLock().lock();
+        try {
+            int b = base.lowerBound(needle);
+            int d = delta.lowerBound(needle);
+            while (matches.size() < limit) {
+                boolean fromBase;
+                if (b < base.size && base.keys[b].startsWith(needle)) {
+                    fromBase = d >= delta.size || !delta.keys[d].startsWith(needle)
+                            || base.keys[b].compareTo(delta.keys[d]) <= 0;
+                } else if (d < delta.size && delta.keys[d].startsWith(needle)) {
+                    fromBase = false;
+                } else {
+                    break;
+                }
+                Keys source = fromBase ? base : delta;
+                int i = fromBase ? b++ : d++;
+                int slot = source.slots[i];
+                // Skip keys of an overwritten name/email, and users already matched on their other key
+                if (source.versions[i] == versions[slot] && !contains(matchedSlots, matches.size(), slot)) {
+                    matchedSlots[matches.size()] = slot;
+                    matches.add(new UserSuggestion(ids[slot], names[slot], emails[slot]));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches;
+    }
+
+    /**
+     * Adds a user, or replaces the indexed name and email when a user with
+     * the same id is already present (a {@code save} with an id is an upsert).
+     */
+    void put(User user) {
+        lock.writeLock().lock();
+        try {
+            int slot = upsertSlot(user);
+            if (slot < 0) {
+                return;
+            }
+            int capacity = Math.max(MIN_DELTA_CAPACITY, (int) Math.sqrt(base.size));
+            if (delta.size + 2 > capacity || staleEntries > base.size / 4 + MIN_DELTA_CAPACITY) {
+                merge();
+            }
+            addKeys(delta, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return stringBytes
+                    + ids.length * SLOT_BYTES
+                    + (long) (base.keys.length + delta.keys.length) * ENTRY_BYTES
+                    + slotById.size() * ID_MAP_ENTRY_BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the slot whose keys must be (re)added, or -1 when nothing
+     * changed. Caller holds the write lock or is the constructor.
+     */
+    private int upsertSlot(User user) {
+        Integer existing = user.id() != null ? slotById.get(user.id()) : null;
+        if (existing != null) {
+            int slot = existing;
+            if (Objects.equals(names[slot], user.name()) && Objects.equals(emails[slot], user.email())) {
+                return -1;
+            }
+            staleEntries += keyCount(names[slot], emails[slot]);
+            stringBytes -= keyedStringBytes(names[slot]) + keyedStringBytes(emails[slot]);
+            names[slot] = user.name();
+            emails[slot] = user.email();
+            stringBytes += keyedStringBytes(user.name()) + keyedStringBytes(user.email());
+            versions[slot]++;
+            return slot;
+        }
+
+        if (size == ids.length) {
+            grow(Math.max(16, size * 2));
+        }
+        int slot = size++;
+        ids[slot] = user.id();
+        names[slot] = user.name();
+        emails[slot] = user.email();
+        stringBytes += stringBytes(user.id()) + keyedStringBytes(user.name()) + keyedStringBytes(user.email());
+        if (user.id() != null) {
+            slotById.put(user.id(), slot);
+        }
+        return slot;
+    }
+
+    /** Appends to the unsorted initial keys, or inserts in order into the delta. */
+    private void addKeys(Keys target, int slot) {
+        if (names[slot] != null && !names[slot].isBlank()) {
+            addKey(target, names[slot].toLowerCase(Locale.ROOT), slot);
+        }
+        if (emails[slot] != null && !emails[slot].isBlank()) {
+            addKey(target, emails[slot].toLowerCase(Locale.ROOT), slot);
+        }
+    }
+
+    private void addKey(Keys target, String key, int slot) {
+        if (target == delta) {
+            target.insert(key, slot, versions[slot]);
+        } else {
+            target.add(key, slot, versions[slot]);
+        }
+    }
+
+    private void merge() {
+        Keys merged = new Keys(base.size + delta.size - staleEntries);
+        int b = 0;
+        int d = 0;
+        while (b < base.size || d < delta.size) {
+            boolean fromBase = d >= delta.size || (b < base.size && base.keys[b].compareTo(delta.keys[d]) <= 0);
+            Keys source = fromBase ? base : delta;
+            int i = fromBase ? b++ : d++;
+            if (source.versions[i] == versions[source.slots[i]]) {
+                merged.add(source.keys[i], source.slots[i], source.versions[i]);
+            }
+        }
+        base = merged;
+        delta = new Keys(Math.max(MIN_DELTA_CAPACITY, (int) Math.sqrt(merged.size)));
+        staleEntries = 0;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        names = Arrays.copyOf(names, capacity);
+        emails = Arrays.copyOf(emails, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    private static int keyCount(String name, String email) {
+        return (name != null && !name.isBlank() ? 1 : 0) + (email != null && !email.isBlank() ? 1 : 0);
+    }
+
+    /** The original string plus the lower-cased key derived from it. */
+    private static long keyedStringBytes(String value) {
+        return value == null || value.isBlank() ? stringBytes(value) : 2 * stringBytes(value);
+    }
+
+    private static long stringBytes(String value) {
+        if (value == null) {
+            return 0;
+        }
+        boolean latin1 = value.chars().allMatch(c -> c <= 0xFF);
+        long payload = STRING_OVERHEAD_BYTES + (long) value.length() * (latin1 ? 1 : 2);
+        return (payload + 7) & ~7L;
+    }
+
+    private static boolean contains(int[] values, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Key entries with parallel slot and version arrays, sorted by key once built. */
+    private static final class Keys {
+
+        String[] keys;
+        int[] slots;
+        int[] versions;
+        int size;
+
+        Keys(int capacity) {
+            keys = new String[capacity];
+            slots = new int[capacity];
+            versions = new int[capacity];
+        }
+
+        void add(String key, int slot, int version) {
+            ensureCapacity();
+            keys[size] = key;
+            slots[size] = slot;
+            versions[size] = version;
+            size++;
+        }
+
+        void insert(String key, int slot, int version) {
+            ensureCapacity();
+            int at = lowerBound(key);
+            System.arraycopy(keys, at, keys, at + 1, size - at);
+            System.arraycopy(slots, at, slots, at + 1, size - at);
+            System.arraycopy(versions, at, versions, at + 1, size - at);
+            keys[at] = key;
+            slots[at] = slot;
+            versions[at] = version;
+            size++;
+        }
+
+        private void ensureCapacity() {
+            if (size == keys.length) {
+                int capacity = Math.max(8, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                slots = Arrays.copyOf(slots, capacity);
+                versions = Arrays.copyOf(versions, capacity);
+            }
+        }
+
+        void sort() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (x, y) -> keys[x].compareTo(keys[y]));
+            String[] sortedKeys = new String[keys.length];
+            int[] sortedSlots = new int[keys.length];
+            int[] sortedVersions = new int[keys.length];
+            for (int i = 0; i < size; i++) {
+                sortedKeys[i] = keys[order[i]];
+                sortedSlots[i] = slots[order[i]];
+                sortedVersions[i] = versions[order[i]];
+            }
+            keys = sortedKeys;
+            slots = sortedSlots;
+            versions = sortedVersions;
+        }
+
+        int lowerBound(String needle) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(needle) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
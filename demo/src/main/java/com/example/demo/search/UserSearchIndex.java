@@ -0,0 +1,244 @@
+package com.example.demo.search;
+
+import com.example.demo.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-tenant in-memory prefix indexes for the typeahead search. A tenant's
+ * index is built on its first search from the loader (the tenant-routed
+ * {@code users} collection), kept current by {@link #onUserCreated}, and
+ * dropped by the scheduled sweep once idle, or least recently used first when
+ * all indexes together exceed the memory budget.
+ *
+ * <p>A tenant whose index alone exceeds the budget is dropped on its own and
+ * remembered for the idle timeout; meanwhile its searches go to the bounded
+ * {@link PrefixQuery} instead of reloading the whole collection.
+ */
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+
+    private final Map<String, TenantEntry> tenants = new ConcurrentHashMap<>();
+    private final Map<String, Long> oversizedSince = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final long maxMemoryBytes;
+    private final long idleTimeoutNanos;
+
+    public UserSearchIndex(@Value("${app.search.max-memory-bytes:67108864}") long maxMemoryBytes,
+                           @Value("${app.search.idle-timeout:PT10M}") Duration idleTimeout) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+    }
+
+    /** Fallback lookup for tenants too large to index in memory. */
+    @FunctionalInterface
+    public interface PrefixQuery {
+        List<User> find(String prefix, int limit);
+    }
+
+    public List<UserSuggestion> search(String tenantId, String prefix, int limit,
+                                       Supplier<List<User>> loader, PrefixQuery fallback) {
+        TenantEntry entry = tenants.get(tenantId);
+        if (entry == null) {
+            if (isOversized(tenantId)) {
+                return fallback.find(prefix, limit).stream()
+                        .map(user -> new UserSuggestion(user.id(), user.name(), user.email()))
+                        .toList();
+            }
+            TenantEntry created = new TenantEntry();
+            entry = tenants.putIfAbsent(tenantId, created);
+            if (entry == null) {
+                // The loader runs on this thread so it still sees the request's tenant
+                return load(tenantId, created, loader).search(prefix, limit);
+            }
+        }
+        return entry.await().search(prefix, limit);
+    }
+
+    public void onUserCreated(String tenantId, User user) {
+        // Tenants without an index pick the user up on their next lazy load
+        TenantEntry entry = tenants.get(tenantId);
+        if (entry != null && entry.put(user)) {
+            enforceBudget(tenantId, entry);
+        }
+    }
+
+    public boolean isLoaded(String tenantId) {
+        TenantEntry entry = tenants.get(tenantId);
+        return entry != null && entry.index() != null;
+    }
+
+    public long estimatedBytes() {
+        return totalBytes.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.sweep-interval:PT1M}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        tenants.forEach((tenantId, entry) -> {
+            TenantPrefixIndex index = entry.index();
+            if (index != null && now - index.lastAccessNanos() > idleTimeoutNanos) {
+                remove(tenantId, entry);
+            }
+        });
+        oversizedSince.values().removeIf(since -> now - since > idleTimeoutNanos);
+    }
+
+    private TenantPrefixIndex load(String tenantId, TenantEntry entry, Supplier<List<User>> loader) {
+        TenantPrefixIndex index;
+        try {
+            index = new TenantPrefixIndex(loader.get());
+        } catch (RuntimeException e) {
+            tenants.remove(tenantId, entry);
+            entry.fail(e);
+            throw e;
+        }
+        entry.publish(index);
+        enforceBudget(tenantId, entry);
+        return index;
+    }
+
+    private boolean isOversized(String tenantId) {
+        Long since = oversizedSince.get(tenantId);
+        if (since == null) {
+            return false;
+        }
+        if (System.nanoTime() - since <= idleTimeoutNanos) {
+            return true;
+        }
+        oversizedSince.remove(tenantId, since);
+        return false;
+    }
+
+    /**
+     * Brings the running total up to date with this tenant's index, then drops
+     * the tenant alone if it does not fit the budget by itself, or otherwise
+     * the least recently used other tenants until everything fits.
+     */
+    private void enforceBudget(String tenantId, TenantEntry entry) {
+        long bytes = entry.index().estimatedBytes();
+        totalBytes.addAndGet(entry.resize(bytes));
+        if (bytes > maxMemoryBytes) {
+            remove(tenantId, entry);
+            oversizedSince.put(tenantId, System.nanoTime());
+            log.warn("Search index for tenant {} needs ~{} bytes, more than the {} byte budget; "
+                    + "serving its typeahead from the database", tenantId, bytes, maxMemoryBytes);
+            return;
+        }
+        if (totalBytes.get() <= maxMemoryBytes) {
+            return;
+        }
+        List<Map.Entry<String, TenantEntry>> byAge = tenants.entrySet().stream()
+                .filter(other -> !other.getKey().equals(tenantId) && other.getValue().index() != null)
+                .sorted(Comparator.comparingLong(other -> other.getValue().index().lastAccessNanos()))
+                .toList();
+        for (Map.Entry<String, TenantEntry> other : byAge) {
+            if (totalBytes.get() <= maxMemoryBytes) {
+                return;
+            }
+            remove(other.getKey(), other.getValue());
+        }
+    }
+
+    private void remove(String tenantId, TenantEntry entry) {
+        if (tenants.remove(tenantId, entry)) {
+            totalBytes.addAndGet(-entry.release());
+        }
+    }
+
+    /**
+     * A tenant's slot in the map, published before its index is built so that
+     * concurrent searches wait for the one load and creates made meanwhile are
+     * queued and applied before the index becomes visible.
+     */
+    private static final class TenantEntry {
+
+        private final CompletableFuture<TenantPrefixIndex> ready = new CompletableFuture<>();
+        private List<User> pending = new ArrayList<>();
+        private volatile TenantPrefixIndex index;
+        // Bytes this entry contributes to the running total; guarded by this
+        private long accountedBytes;
+        private boolean released;
+
+        TenantPrefixIndex index() {
+            return index;
+        }
+
+        TenantPrefixIndex await() {
+            try {
+                return ready.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        /** Returns true when the user went into a built index rather than the queue. */
+        boolean put(User user) {
+            TenantPrefixIndex target;
+            synchronized (this) {
+                if (index == null) {
+                    if (pending != null) {
+                        pending.add(user);
+                    }
+                    return false;
+                }
+                target = index;
+            }
+            target.put(user);
+            return true;
+        }
+
+        void publish(TenantPrefixIndex built) {
+            synchronized (this) {
+                pending.forEach(built::put);
+                pending = null;
+                index = built;
+            }
+            ready.complete(built);
+        }
+
+        void fail(RuntimeException e) {
+            synchronized (this) {
+                pending = null;
+            }
+            ready.completeExceptionally(e);
+        }
+
+        /** Records the index's current size and returns the change to the running total. */
+        synchronized long resize(long bytes) {
+            if (released) {
+                return 0;
+            }
+            long delta = bytes - accountedBytes;
+            accountedBytes = bytes;
+            return delta;
+        }
+
+        /** Returns the bytes to take off the running total; later resizes count nothing. */
+        synchronized long release() {
+            released = true;
+            long bytes = accountedBytes;
+            accountedBytes = 0;
+            return bytes;
+        }
+    }
+}
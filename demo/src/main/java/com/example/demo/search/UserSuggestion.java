@@ -0,0 +1,11 @@
+package com.example.demo.search;
+
+/**
+ * A typeahead match: only the fields the admin UI shows, so the index does
+ * not have to keep whole {@code User} documents in memory.
+ */
+public record UserSuggestion(
+        String id,
+        String name,
+        String email
+) {}
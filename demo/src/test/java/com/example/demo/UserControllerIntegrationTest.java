@@ -262,6 +262,53 @@ class UserControllerIntegrationTest {
         assertThat(tenant2Db.getCollection("users").countDocuments()).isEqualTo(1);
     }
 
+    @Test
+    void searchUsers_ShouldMatchNameAndEmailPrefixes_IncludingNewlyCreatedUsers() throws Exception {
+        // Given
+        String tenantId = "org-search";
+        MongoDatabase tenantDb = mongoClient.getDatabase("org_" + tenantId);
+        tenantDb.getCollection("users").insertOne(
+            new org.bson.Document()
+                .append("name", "Alice Johnson")
+                .append("email", "alice@example.com")
+                .append("role", "ADMIN")
+        );
+        tenantDb.getCollection("users").insertOne(
+            new org.bson.Document()
+                .append("name", "Bob Williams")
+                .append("email", "bob@example.com")
+                .append("role", "USER")
+        );
+
+        // When & Then - first search lazily loads the index from the database
+        mockMvc.perform(get("/api/{tenantId}/users/search", tenantId).param("prefix", "AL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Alice Johnson"));
+
+        mockMvc.perform(get("/api/{tenantId}/users/search", tenantId).param("prefix", "bob@"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value("bob@example.com"));
+
+        // A created user is added to the already loaded index
+        mockMvc.perform(post("/api/{tenantId}/users", tenantId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {
+                                    "name": "Alan Turing",
+                                    "email": "alan@example.com",
+                                    "role": "USER"
+                                }
+                                """))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/{tenantId}/users/search", tenantId).param("prefix", "al"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("Alice Johnson", "Alan Turing")));
+    }
+
     @Test
     void generateOrgId_ShouldReturnValidUUID() throws Exception {
         // When
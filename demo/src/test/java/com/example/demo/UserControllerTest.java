@@ -2,6 +2,8 @@ package com.example.demo.controller;
 
 import com.example.demo.model.User;
 import com.example.demo.repository.UserRepository;
+import com.example.demo.search.UserSearchIndex;
+import com.example.demo.search.UserSuggestion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,6 +20,7 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -28,6 +31,9 @@ class UserControllerTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
     @InjectMocks
     private UserController userController;
 
@@ -64,6 +70,7 @@ class UserControllerTest {
                 .andExpect(jsonPath("$.role").value("ADMIN"));
 
         verify(userRepository, times(1)).save(any(User.class));
+        verify(userSearchIndex, times(1)).onUserCreated(tenantId, savedUser);
     }
 
     @Test
@@ -154,6 +161,54 @@ class UserControllerTest {
         verify(userRepository, times(1)).findAll();
     }
 
+    @Test
+    void searchUsers_ShouldReturnMatchesFromIndex() throws Exception {
+        // Given
+        String tenantId = "tenant-search";
+        List<UserSuggestion> matches = List.of(new UserSuggestion("1", "Alice Johnson", "alice@example.com"));
+
+        when(userSearchIndex.search(eq(tenantId), eq("ali"), eq(10), any(), any())).thenReturn(matches);
+
+        // When & Then
+        mockMvc.perform(get("/api/{tenantId}/users/search", tenantId).param("prefix", "ali"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].name").value("Alice Johnson"));
+
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void searchUsers_ShouldCapLimit() throws Exception {
+        // Given
+        String tenantId = "tenant-search";
+        when(userSearchIndex.search(eq(tenantId), eq("a"), eq(50), any(), any())).thenReturn(List.of());
+
+        // When & Then
+        mockMvc.perform(get("/api/{tenantId}/users/search", tenantId)
+                        .param("prefix", "a")
+                        .param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void searchUsers_WithBlankPrefix_ShouldReturnEmptyListWithoutLoadingIndex() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/{tenantId}/users/search", "tenant-search").param("prefix", " "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verifyNoInteractions(userSearchIndex);
+    }
+
+    @Test
+    void searchUsers_WithoutPrefix_ShouldReturnBadRequest() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/api/{tenantId}/users/search", "tenant-search"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void generateOrgId_ShouldReturnValidUUID() throws Exception {
         // When & Then
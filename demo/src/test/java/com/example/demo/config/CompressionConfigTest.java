@@ -0,0 +1,138 @@
+package com.example.demo.config;
+
+import com.example.demo.model.User;
+import com.example.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(CompressionConfigTest.StreamingController.class)
+class CompressionConfigTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void compressionFilter_ShouldBeRegisteredOnApiPaths() {
+        assertThat(responseCompressionFilter.getUrlPatterns()).containsExactly("/api/*");
+    }
+
+    @Test
+    void getUsers_WithManyUsers_ShouldBeCompressed() throws Exception {
+        // Given
+        when(userRepository.findAll()).thenReturn(users(1_000));
+
+        // When
+        HttpResponse<byte[]> response = get("/api/org-large/users", "gzip");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String json = decode(new GZIPInputStream(new ByteArrayInputStream(response.body())));
+        assertThat(json).startsWith("[{").contains("user999@example.com");
+        assertThat(response.body().length).isLessThan(json.length() / 4);
+    }
+
+    @Test
+    void getUsers_WithFewUsers_ShouldNotBeCompressed() throws Exception {
+        // Given
+        when(userRepository.findAll()).thenReturn(users(2));
+
+        // When
+        HttpResponse<byte[]> response = get("/api/org-small/users", "gzip");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).isEmpty();
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).contains("user1@example.com");
+    }
+
+    @Test
+    void streamingResponseBody_ShouldBeCompressedAcrossAsyncDispatch() throws Exception {
+        // When
+        HttpResponse<byte[]> response = get("/api/org-stream/stream", "gzip");
+
+        // Then
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("Content-Encoding")).hasValue("gzip");
+        String body = decode(new GZIPInputStream(new ByteArrayInputStream(response.body())));
+        assertThat(body).hasSize(StreamingController.LINES * StreamingController.LINE.length());
+    }
+
+    private HttpResponse<byte[]> get(String path, String acceptEncoding) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept-Encoding", acceptEncoding)
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static String decode(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(String.valueOf(i), "User " + i, "user" + i + "@example.com", "USER"));
+        }
+        return users;
+    }
+
+    @TestConfiguration
+    @RestController
+    static class StreamingController {
+
+        static final int LINES = 2_000;
+        static final String LINE = "{\"name\":\"streamed user\",\"role\":\"USER\"}\n";
+
+        @GetMapping("/api/{tenantId}/stream")
+        ResponseEntity<StreamingResponseBody> stream(@PathVariable String tenantId) {
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out -> {
+                for (int i = 0; i < LINES; i++) {
+                    out.write(LINE.getBytes(StandardCharsets.UTF_8));
+                    if (i % 500 == 0) {
+                        out.flush();
+                    }
+                }
+            });
+        }
+    }
+}
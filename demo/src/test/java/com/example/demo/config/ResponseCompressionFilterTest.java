@@ -0,0 +1,388 @@
+package com.example.demo.config;
+
+import com.example.demo.config.ResponseCompressionFilter.Algorithm;
+import com.github.luben.zstd.ZstdInputStream;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseCompressionFilterTest {
+
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(
+            List.of(Algorithm.ZSTD, Algorithm.GZIP, Algorithm.DEFLATE),
+            1024,
+            ResponseCompressionFilter.parseMimeTypes(List.of("application/json")));
+
+    @Test
+    void largeJsonResponse_ShouldBeGzipped_WhenClientAcceptsGzip() throws Exception {
+        // Given
+        String body = jsonUsers(200);
+
+        // When
+        MockHttpServletResponse response = execute("gzip, deflate", "application/json", body);
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getContentAsByteArray().length).isLessThan(body.length());
+        assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())))).isEqualTo(body);
+    }
+
+    @Test
+    void largeJsonResponse_ShouldUsePreferredAlgorithm_WhenClientAcceptsSeveral() throws Exception {
+        // Given
+        String body = jsonUsers(200);
+
+        // When
+        MockHttpServletResponse response = execute("gzip, zstd", "application/json", body);
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("zstd");
+        assertThat(decode(new ZstdInputStream(new ByteArrayInputStream(response.getContentAsByteArray())))).isEqualTo(body);
+    }
+
+    @Test
+    void largeJsonResponse_ShouldBeDeflated_WhenOnlyDeflateAccepted() throws Exception {
+        // Given
+        String body = jsonUsers(200);
+
+        // When
+        MockHttpServletResponse response = execute("deflate, gzip;q=0", "application/json", body);
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("deflate");
+        assertThat(decode(new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray())))).isEqualTo(body);
+    }
+
+    @Test
+    void smallResponse_ShouldNotBeCompressed() throws Exception {
+        // Given
+        String body = jsonUsers(1);
+
+        // When
+        MockHttpServletResponse response = execute("gzip", "application/json", body);
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @Test
+    void response_ShouldNotBeCompressed_WhenClientSendsNoAcceptEncoding() throws Exception {
+        // Given
+        String body = jsonUsers(200);
+
+        // When
+        MockHttpServletResponse response = execute(null, "application/json", body);
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @Test
+    void response_ShouldNotBeCompressed_WhenMimeTypeNotConfigured() throws Exception {
+        // Given
+        String body = "x".repeat(4096);
+
+        // When
+        MockHttpServletResponse response = execute("gzip", "application/octet-stream", body);
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @Test
+    void resetBuffer_BelowThreshold_ShouldDropPartialBody() throws Exception {
+        // Given
+        String error = "{\"error\":\"Internal Server Error\"}";
+
+        // When - serialization fails part way and the error handler resets the buffer
+        MockHttpServletResponse response = execute("gzip", (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write("[{\"id\":\"1\",\"na".getBytes(StandardCharsets.UTF_8));
+            res.resetBuffer();
+            res.setStatus(500);
+            res.getOutputStream().write(error.getBytes(StandardCharsets.UTF_8));
+        });
+
+        // Then
+        assertThat(response.getStatus()).isEqualTo(500);
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(error);
+    }
+
+    @Test
+    void resetBuffer_AfterCompressionStarted_ShouldRestartCompressedStream() throws Exception {
+        // Given
+        String partial = jsonUsers(200).substring(0, 5000);
+        String error = "{\"error\":\"Internal Server Error\"}";
+
+        // When
+        MockHttpServletResponse response = execute("gzip", (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(partial.getBytes(StandardCharsets.UTF_8));
+            res.resetBuffer();
+            res.setStatus(500);
+            res.getOutputStream().write(error.getBytes(StandardCharsets.UTF_8));
+        });
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())))).isEqualTo(error);
+    }
+
+    @Test
+    void reset_AfterCompressionStarted_ShouldDecideAgainFromScratch() throws Exception {
+        // Given
+        String partial = jsonUsers(200).substring(0, 5000);
+        String error = "{\"error\":\"Internal Server Error\"}";
+
+        // When
+        MockHttpServletResponse response = execute("zstd", (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(partial.getBytes(StandardCharsets.UTF_8));
+            res.reset();
+            res.setStatus(500);
+            res.setContentType("application/json");
+            res.getWriter().write(error);
+        });
+
+        // Then - the error body is below the threshold, so it goes out uncompressed
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getContentAsString()).isEqualTo(error);
+    }
+
+    @Test
+    void exceptionInHandler_BelowThreshold_ShouldLeaveResponseUncommitted() throws Exception {
+        // Given
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        assertThatThrownBy(() -> filter.doFilter(request, response, new MockFilterChain(servlet((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write("[{\"id\":\"1\",\"na".getBytes(StandardCharsets.UTF_8));
+            throw new IllegalStateException("serialization failed");
+        })))).hasMessage("serialization failed");
+
+        // Then - nothing was sent, so the container can still reset and send its 500
+        assertThat(response.isCommitted()).isFalse();
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void exceptionInHandler_AfterCompressionStarted_ShouldNotCompleteCompressedStream() throws Exception {
+        // Given
+        String partial = jsonUsers(200).substring(0, 5000);
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        assertThatThrownBy(() -> filter.doFilter(request, response, new MockFilterChain(servlet((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(partial.getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().flush();
+            throw new IllegalStateException("serialization failed");
+        })))).hasMessage("serialization failed");
+
+        // Then - no trailer, so the client cannot mistake the truncated body for a complete one
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getContentAsByteArray()).isNotEmpty();
+        assertThatThrownBy(() -> decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void negotiate_ShouldPreferExplicitRefusalOverWildcard() {
+        assertThat(filter.negotiate("zstd;q=0, *")).isEqualTo(Algorithm.GZIP);
+        assertThat(filter.negotiate("*, zstd;q=0, gzip;q=0")).isEqualTo(Algorithm.DEFLATE);
+        assertThat(filter.negotiate("*;q=0")).isNull();
+        assertThat(filter.negotiate("identity")).isNull();
+    }
+
+    @Test
+    void setWriteListener_BeforeAnyWrite_ShouldPassThroughUncompressed() throws Exception {
+        // Given
+        String body = jsonUsers(200);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        NonBlockingResponse container = new NonBlockingResponse(response);
+        MockHttpServletRequest request = request("gzip");
+
+        // When
+        filter.doFilter(request, container, new MockFilterChain(servlet((req, res) -> {
+            res.setContentType("application/json");
+            ServletOutputStream out = res.getOutputStream();
+            out.setWriteListener(new WriteListener() {
+                @Override
+                public void onWritePossible() {
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                }
+            });
+            assertThat(out.isReady()).isTrue();
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        })));
+
+        // Then
+        assertThat(container.listener).isNotNull();
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @Test
+    void setWriteListener_AfterCompressionStarted_ShouldBeRefused() {
+        // Given
+        MockHttpServletRequest request = request("gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When & Then
+        assertThatThrownBy(() -> filter.doFilter(request, response, new MockFilterChain(servlet((req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(jsonUsers(200).getBytes(StandardCharsets.UTF_8));
+            res.getOutputStream().setWriteListener(null);
+        })))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void asyncResponse_ShouldBeFinishedWhenAsyncCompletes() throws Exception {
+        // Given
+        String body = jsonUsers(200);
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        MockHttpServletRequest request = request("gzip");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When - the handler starts async and writes the first half before returning
+        filter.doFilter(request, response, new MockFilterChain(servlet((req, res) -> {
+            req.startAsync(req, res);
+            res.setContentType("application/json");
+            res.getOutputStream().write(bytes, 0, bytes.length / 2);
+        })));
+        assertThat(request.isAsyncStarted()).isTrue();
+
+        // ...and the rest arrives later, as a StreamingResponseBody would write it
+        HttpServletResponse asyncResponse = (HttpServletResponse) request.getAsyncContext().getResponse();
+        asyncResponse.getOutputStream().write(bytes, bytes.length / 2, bytes.length - bytes.length / 2);
+        request.getAsyncContext().complete();
+
+        // Then
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(decode(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())))).isEqualTo(body);
+    }
+
+    private MockHttpServletResponse execute(String acceptEncoding, String contentType, String body) throws Exception {
+        return execute(acceptEncoding, (req, res) -> {
+            res.setContentType(contentType);
+            // Write in small chunks the way a streaming serializer would
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            for (int off = 0; off < bytes.length; off += 100) {
+                res.getOutputStream().write(bytes, off, Math.min(100, bytes.length - off));
+            }
+        });
+    }
+
+    private MockHttpServletResponse execute(String acceptEncoding, Handler handler) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(acceptEncoding), response, new MockFilterChain(servlet(handler)));
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/org-1/users");
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        return request;
+    }
+
+    private static HttpServlet servlet(Handler handler) {
+        return new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+                handler.handle(req, res);
+            }
+        };
+    }
+
+    /** A container response whose stream accepts a write listener, as Tomcat's does once async has started. */
+    private static final class NonBlockingResponse extends HttpServletResponseWrapper {
+
+        private WriteListener listener;
+
+        NonBlockingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            ServletOutputStream out = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    listener = writeListener;
+                }
+            };
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws IOException;
+    }
+
+    private static String decode(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String jsonUsers(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(String.format("{\"id\":\"%d\",\"name\":\"User %d\",\"email\":\"user%d@example.com\",\"role\":\"USER\"}", i, i, i));
+        }
+        return json.append(']').toString();
+    }
+}
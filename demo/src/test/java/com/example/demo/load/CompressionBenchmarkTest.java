@@ -0,0 +1,155 @@
+package com.example.demo.load;
+
+import com.example.demo.model.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.ZstdOutputStream;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.ByteBuf;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xerial.snappy.Snappy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bandwidth saved versus CPU spent when compressing a tenant's users, for
+ * tenants of increasing size. Two payloads are measured: the JSON body of
+ * {@code getUsers} with the HTTP response codecs, and the BSON cursor batch
+ * the driver receives for the same {@code findAll()} with the Mongo wire
+ * codecs, which is what travels inside an {@code OP_COMPRESSED} message.
+ *
+ * <p>Writes {@code <load.reportDir>/compression/<commit>/compression.csv};
+ * run with {@code ./mvnw test -Pload-test -Dtest=CompressionBenchmarkTest}.
+ */
+@Tag("load")
+class CompressionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CompressionBenchmarkTest.class);
+
+    private static final int[] TENANT_SIZES = {10, 100, 1_000, 10_000, 100_000};
+    private static final List<String> HTTP_CODECS = List.of("gzip", "deflate", "zstd");
+    private static final List<String> WIRE_CODECS = List.of("zlib", "snappy", "zstd");
+    private static final long TARGET_NANOS_PER_CASE = 500_000_000L;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compressUserPayloads() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (int users : TENANT_SIZES) {
+            List<User> tenant = users(users);
+            byte[] json = objectMapper.writeValueAsBytes(tenant);
+            byte[] bson = cursorBatch(tenant);
+            for (String codec : HTTP_CODECS) {
+                rows.add(measure(users, "http-json", codec, json));
+            }
+            for (String codec : WIRE_CODECS) {
+                rows.add(measure(users, "wire-bson", codec, bson));
+            }
+        }
+
+        Path dir = Path.of(System.getProperty("load.reportDir", "target/load-reports"), "compression", LoadReport.currentCommit());
+        Files.createDirectories(dir);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("compression.csv")), false, StandardCharsets.UTF_8)) {
+            out.println("users,payload,codec,raw_bytes,compressed_bytes,ratio,cpu_us,bytes_saved_per_cpu_us");
+            rows.forEach(out::println);
+        }
+        log.info("Compression report written to {}", dir.toAbsolutePath());
+    }
+
+    private String measure(int users, String payloadName, String codec, byte[] payload) throws IOException {
+        // Warm up the codec before timing it
+        compress(codec, payload);
+
+        long cpuStart = threads.getCurrentThreadCpuTime();
+        long wallStart = System.nanoTime();
+        int iterations = 0;
+        int compressedSize;
+        do {
+            compressedSize = compress(codec, payload).length;
+            iterations++;
+        } while (System.nanoTime() - wallStart < TARGET_NANOS_PER_CASE);
+        double cpuMicros = (threads.getCurrentThreadCpuTime() - cpuStart) / 1_000.0 / iterations;
+
+        assertThat(compressedSize).isPositive();
+        double savedBytes = payload.length - compressedSize;
+        return String.format(Locale.ROOT, "%d,%s,%s,%d,%d,%.3f,%.1f,%.1f",
+                users, payloadName, codec, payload.length, compressedSize, (double) compressedSize / payload.length,
+                cpuMicros, savedBytes / Math.max(cpuMicros, 0.001));
+    }
+
+    private static byte[] compress(String codec, byte[] payload) throws IOException {
+        if (codec.equals("snappy")) {
+            return Snappy.compress(payload);
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(payload.length / 4);
+        // zlib on the wire and HTTP deflate are the same zlib-wrapped format at the default level
+        try (OutputStream out = switch (codec) {
+            case "gzip" -> new GZIPOutputStream(buffer);
+            case "deflate", "zlib" -> new DeflaterOutputStream(buffer);
+            case "zstd" -> new ZstdOutputStream(buffer);
+            default -> throw new IllegalArgumentException("Unknown codec: " + codec);
+        }) {
+            out.write(payload);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] cursorBatch(List<User> users) {
+        BsonArray batch = new BsonArray(new ArrayList<>(users.size()));
+        for (User user : users) {
+            batch.add(new BsonDocument()
+                    // Spring Data stores 24-hex-digit ids as ObjectIds
+                    .append("_id", new BsonObjectId(new ObjectId(user.id())))
+                    .append("name", new BsonString(user.name()))
+                    .append("email", new BsonString(user.email()))
+                    .append("role", new BsonString(user.role()))
+                    .append("_class", new BsonString(User.class.getName())));
+        }
+        BsonDocument reply = new BsonDocument("cursor", new BsonDocument()
+                .append("firstBatch", batch)
+                .append("id", new BsonInt64(0))
+                .append("ns", new BsonString("org_tenant.users")));
+        ByteBuf buffer = new RawBsonDocument(reply, new BsonDocumentCodec()).getByteBuffer();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(
+                    String.format("65f%021x", i),
+                    "User " + i,
+                    "user" + i + "@tenant.example.com",
+                    i % 10 == 0 ? "ADMIN" : "USER"));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.load;
+
+import java.util.Map;
+
+/**
+ * Traffic profile for {@link UserLoadTest}. A named preset is selected with
+ * {@code -Dload.profile=<name>} and any field can be overridden with
+ * {@code -Dload.<field>=<value>}, e.g. {@code -Dload.rate=500}.
+ */
+public record LoadProfile(
+        String name,
+        int tenants,
+        int users,
+        double zipfExponent,
+        double rate,
+        int warmupSeconds,
+        int durationSeconds,
+        int requestTimeoutSeconds,
+        int createWeight,
+        int listWeight,
+        int generateWeight,
+        long seed
+) {
+
+    private static final Map<String, LoadProfile> PRESETS = Map.of(
+            "read-heavy", new LoadProfile("read-heavy", 50, 20_000, 1.1, 200, 10, 60, 10, 5, 90, 5, 42L),
+            "write-heavy", new LoadProfile("write-heavy", 50, 5_000, 1.1, 200, 10, 60, 10, 70, 25, 5, 42L),
+            "smoke", new LoadProfile("smoke", 5, 200, 1.1, 50, 2, 10, 10, 10, 80, 10, 42L)
+    );
+
+    public LoadProfile {
+        if (createWeight < 0 || listWeight < 0 || generateWeight < 0) {
+            throw new IllegalArgumentException("Operation weights must not be negative: create=" + createWeight
+                    + ", list=" + listWeight + ", generate=" + generateWeight);
+        }
+        if (createWeight + listWeight + generateWeight <= 0) {
+            throw new IllegalArgumentException("Operation weights must sum to a positive value");
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive: " + rate);
+        }
+        if (requestTimeoutSeconds <= 0) {
+            throw new IllegalArgumentException("requestTimeoutSeconds must be positive: " + requestTimeoutSeconds);
+        }
+    }
+
+    public static LoadProfile fromSystemProperties() {
+        String name = System.getProperty("load.profile", "read-heavy");
+        LoadProfile base = PRESETS.get(name);
+        if (base == null) {
+            throw new IllegalArgumentException("Unknown load profile '" + name + "', expected one of " + PRESETS.keySet());
+        }
+        return new LoadProfile(
+                name,
+                Integer.getInteger("load.tenants", base.tenants),
+                Integer.getInteger("load.users", base.users),
+                doubleProperty("load.zipfExponent", base.zipfExponent),
+                doubleProperty("load.rate", base.rate),
+                Integer.getInteger("load.warmupSeconds", base.warmupSeconds),
+                Integer.getInteger("load.durationSeconds", base.durationSeconds),
+                Integer.getInteger("load.requestTimeoutSeconds", base.requestTimeoutSeconds),
+                Integer.getInteger("load.createWeight", base.createWeight),
+                Integer.getInteger("load.listWeight", base.listWeight),
+                Integer.getInteger("load.generateWeight", base.generateWeight),
+                Long.getLong("load.seed", base.seed)
+        );
+    }
+
+    public Operation pick(int roll) {
+        int bound = roll % (createWeight + listWeight + generateWeight);
+        if (bound < createWeight) {
+            return Operation.CREATE;
+        }
+        return bound < createWeight + listWeight ? Operation.LIST : Operation.GENERATE_ORG_ID;
+    }
+
+    public int totalWeight() {
+        return createWeight + listWeight + generateWeight;
+    }
+
+    /** The arrival rate this profile offers for one operation, in requests per second. */
+    public double targetRate(Operation op) {
+        int weight = switch (op) {
+            case CREATE -> createWeight;
+            case LIST -> listWeight;
+            case GENERATE_ORG_ID -> generateWeight;
+        };
+        return rate * weight / totalWeight();
+    }
+
+    private static double doubleProperty(String key, double defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    public enum Operation {
+        CREATE, LIST, GENERATE_ORG_ID
+    }
+}
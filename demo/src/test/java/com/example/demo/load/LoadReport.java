@@ -0,0 +1,147 @@
+package com.example.demo.load;
+
+import com.example.demo.load.LoadProfile.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and error counts for one load run.
+ *
+ * <p>Reports are written to {@code <load.reportDir>/<profile>/<commit>/}: a
+ * {@code summary.csv} with fixed columns, the exact parameters of the run in
+ * {@code profile.properties}, and one HdrHistogram percentile distribution
+ * ({@code .hgrm}) per operation, so runs of the same profile on different
+ * commits can be diffed or plotted side by side. Runs on a dirty tree get a
+ * {@code -dirty} commit suffix and never overwrite the clean commit's report.
+ *
+ * <p>Throughput is what the server actually completed inside the measurement
+ * window, reported next to the rate the profile offered; in an open model the
+ * two only diverge when the server falls behind.
+ */
+public final class LoadReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> timeouts = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> completions = new EnumMap<>(Operation.class);
+    private final long windowStartNanos;
+    private final long windowEndNanos;
+
+    /** Completions are counted when they land in {@code [windowStartNanos, windowEndNanos)}. */
+    public LoadReport(long windowStartNanos, long windowEndNanos) {
+        this.windowStartNanos = windowStartNanos;
+        this.windowEndNanos = windowEndNanos;
+        for (Operation op : Operation.values()) {
+            latencies.put(op, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(op, new LongAdder());
+            timeouts.put(op, new LongAdder());
+            completions.put(op, new LongAdder());
+        }
+    }
+
+    public void recordSuccess(Operation op, long latencyNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(latencyNanos);
+        latencies.get(op).recordValue(Math.min(Math.max(micros, 1), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    public void recordCompletion(Operation op, long completedAtNanos) {
+        if (completedAtNanos >= windowStartNanos && completedAtNanos < windowEndNanos) {
+            completions.get(op).increment();
+        }
+    }
+
+    public void recordError(Operation op) {
+        errors.get(op).increment();
+    }
+
+    /** A timed-out request counts as an error and is also reported on its own. */
+    public void recordTimeout(Operation op) {
+        errors.get(op).increment();
+        timeouts.get(op).increment();
+    }
+
+    public long totalCount() {
+        return latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public long totalErrors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    public Path write(LoadProfile profile, String commit) throws IOException {
+        Path dir = Path.of(System.getProperty("load.reportDir", "target/load-reports"), profile.name(), commit);
+        Files.createDirectories(dir);
+
+        Properties parameters = new Properties();
+        parameters.setProperty("name", profile.name());
+        parameters.setProperty("tenants", String.valueOf(profile.tenants()));
+        parameters.setProperty("users", String.valueOf(profile.users()));
+        parameters.setProperty("zipfExponent", String.valueOf(profile.zipfExponent()));
+        parameters.setProperty("rate", String.valueOf(profile.rate()));
+        parameters.setProperty("warmupSeconds", String.valueOf(profile.warmupSeconds()));
+        parameters.setProperty("durationSeconds", String.valueOf(profile.durationSeconds()));
+        parameters.setProperty("requestTimeoutSeconds", String.valueOf(profile.requestTimeoutSeconds()));
+        parameters.setProperty("createWeight", String.valueOf(profile.createWeight()));
+        parameters.setProperty("listWeight", String.valueOf(profile.listWeight()));
+        parameters.setProperty("generateWeight", String.valueOf(profile.generateWeight()));
+        parameters.setProperty("seed", String.valueOf(profile.seed()));
+        parameters.setProperty("commit", commit);
+        try (Writer out = Files.newBufferedWriter(dir.resolve("profile.properties"), StandardCharsets.UTF_8)) {
+            parameters.store(out, "Load profile for this run");
+        }
+
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("summary.csv")), false, StandardCharsets.UTF_8)) {
+            out.println("commit,profile,operation,count,errors,timeouts,target_rps,throughput_rps,p50_us,p90_us,p99_us,p999_us,max_us");
+            double windowSeconds = (windowEndNanos - windowStartNanos) / 1e9;
+            for (Operation op : Operation.values()) {
+                Histogram h = latencies.get(op);
+                out.println(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%d,%.1f,%.1f,%d,%d,%d,%d,%d",
+                        commit, profile.name(), op, h.getTotalCount(), errors.get(op).sum(), timeouts.get(op).sum(),
+                        profile.targetRate(op), completions.get(op).sum() / windowSeconds,
+                        h.getValueAtPercentile(50), h.getValueAtPercentile(90),
+                        h.getValueAtPercentile(99), h.getValueAtPercentile(99.9), h.getMaxValue()));
+            }
+        }
+
+        for (Operation op : Operation.values()) {
+            Path hgrm = dir.resolve(op.name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(hgrm), false, StandardCharsets.UTF_8)) {
+                // Values are recorded in microseconds; scale the output to milliseconds
+                latencies.get(op).outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return dir;
+    }
+
+    public static String currentCommit() {
+        String commit = System.getProperty("load.commit");
+        if (commit != null && !commit.isBlank()) {
+            return commit;
+        }
+        try {
+            Process git = new ProcessBuilder("git", "describe", "--always", "--dirty").redirectErrorStream(true).start();
+            String out = new String(git.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return git.waitFor() == 0 && !out.isEmpty() ? out : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+}
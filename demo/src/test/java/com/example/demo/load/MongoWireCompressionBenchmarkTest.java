@@ -0,0 +1,160 @@
+package com.example.demo.load;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures Mongo wire compression end to end: each tenant is read in full
+ * with {@code find()} over a client that offers one compressor, and the bytes
+ * the server sent are taken from {@code serverStatus().network.bytesOut}.
+ *
+ * <p>Uses a Mongo container by default, or an existing server with
+ * {@code -Dload.mongoUri=mongodb://host:27017}. Writes
+ * {@code <load.reportDir>/wire-compression/<commit>/wire-compression.csv}.
+ */
+@Tag("load")
+class MongoWireCompressionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoWireCompressionBenchmarkTest.class);
+
+    private static final int[] TENANT_SIZES = {100, 1_000, 10_000, 100_000};
+    private static final List<String> COMPRESSORS = List.of("none", "zlib", "snappy", "zstd");
+    private static final int READS_PER_CASE = 5;
+
+    private static MongoDBContainer container;
+    private static String mongoUri;
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @BeforeAll
+    static void startMongo() {
+        mongoUri = System.getProperty("load.mongoUri");
+        if (mongoUri == null) {
+            container = new MongoDBContainer(DockerImageName.parse("mongo:7.0"));
+            container.start();
+            mongoUri = container.getConnectionString();
+        }
+    }
+
+    @AfterAll
+    static void stopMongo() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Test
+    void readTenantsWithEachCompressor() throws Exception {
+        try (MongoClient seeder = MongoClients.create(mongoUri)) {
+            for (int users : TENANT_SIZES) {
+                seed(seeder.getDatabase(database(users)).getCollection("users"), users);
+            }
+        }
+
+        List<String> rows = new ArrayList<>();
+        for (String compressor : COMPRESSORS) {
+            try (MongoClient client = client(compressor)) {
+                for (int users : TENANT_SIZES) {
+                    MongoCollection<Document> collection = client.getDatabase(database(users)).getCollection("users");
+                    // Warm up the connection and the codec
+                    readAll(collection);
+
+                    long bytesBefore = bytesOut(client);
+                    long cpuStart = threads.getCurrentThreadCpuTime();
+                    for (int i = 0; i < READS_PER_CASE; i++) {
+                        assertThat(readAll(collection)).isEqualTo(users);
+                    }
+                    double cpuMicros = (threads.getCurrentThreadCpuTime() - cpuStart) / 1_000.0 / READS_PER_CASE;
+                    // serverStatus itself is counted once in the delta; it is small next to the reads
+                    long wireBytes = (bytesOut(client) - bytesBefore) / READS_PER_CASE;
+
+                    rows.add(String.format(Locale.ROOT, "%d,%s,%d,%.1f", users, compressor, wireBytes, cpuMicros));
+                }
+            }
+        }
+
+        Path dir = Path.of(System.getProperty("load.reportDir", "target/load-reports"), "wire-compression", LoadReport.currentCommit());
+        Files.createDirectories(dir);
+        try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve("wire-compression.csv")), false, StandardCharsets.UTF_8)) {
+            out.println("users,compressor,server_bytes_out_per_read,client_cpu_us_per_read");
+            rows.forEach(out::println);
+        }
+        log.info("Wire compression report written to {}", dir.toAbsolutePath());
+    }
+
+    private static MongoClient client(String compressor) {
+        MongoClientSettings.Builder settings = MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(mongoUri));
+        switch (compressor) {
+            case "zlib" -> settings.compressorList(List.of(MongoCompressor.createZlibCompressor()));
+            case "snappy" -> settings.compressorList(List.of(MongoCompressor.createSnappyCompressor()));
+            case "zstd" -> settings.compressorList(List.of(MongoCompressor.createZstdCompressor()));
+            default -> settings.compressorList(List.of());
+        }
+        return MongoClients.create(settings.build());
+    }
+
+    private static int readAll(MongoCollection<Document> collection) {
+        int count = 0;
+        try (MongoCursor<Document> cursor = collection.find().iterator()) {
+            while (cursor.hasNext()) {
+                cursor.next();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long bytesOut(MongoClient client) {
+        Document status = client.getDatabase("admin").runCommand(new Document("serverStatus", 1));
+        return ((Number) status.get("network", Document.class).get("bytesOut")).longValue();
+    }
+
+    private static void seed(MongoCollection<Document> collection, int users) {
+        collection.drop();
+        List<Document> batch = new ArrayList<>(1_000);
+        for (int i = 0; i < users; i++) {
+            batch.add(new Document()
+                    .append("name", "User " + i)
+                    .append("email", "user" + i + "@tenant.example.com")
+                    .append("role", i % 10 == 0 ? "ADMIN" : "USER"));
+            if (batch.size() == 1_000) {
+                collection.insertMany(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            collection.insertMany(batch);
+        }
+    }
+
+    private static String database(int users) {
+        return "org_wire-bench-" + users;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demo.load;
+
+import com.example.demo.load.LoadProfile.Operation;
+import com.mongodb.client.MongoClient;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Macro load test against the real application and a Mongo container.
+ *
+ * <p>Tenants and their user counts follow a Zipf distribution, requests arrive
+ * as an open-model Poisson process at {@link LoadProfile#rate()}, and latency
+ * is measured from each request's <em>intended</em> start time so a stalled
+ * server shows up in the percentiles instead of silently lowering the rate.
+ *
+ * <p>Excluded from the default build; run with {@code ./mvnw test -Pload-test}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Testcontainers
+class UserLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(UserLoadTest.class);
+
+    private static final String TENANT_PREFIX = "load-";
+
+    @Container
+    static MongoDBContainer mongoDBContainer = new MongoDBContainer(DockerImageName.parse("mongo:7.0"))
+            .withExposedPorts(27017);
+
+    @DynamicPropertySource
+    static void setProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.mongodb.uri", mongoDBContainer::getConnectionString);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private MongoClient mongoClient;
+
+    @BeforeAll
+    static void beforeAll() {
+        mongoDBContainer.start();
+    }
+
+    @Test
+    void runProfile() throws Exception {
+        LoadProfile profile = LoadProfile.fromSystemProperties();
+        ZipfDistribution tenants = new ZipfDistribution(profile.tenants(), profile.zipfExponent());
+        SplittableRandom random = new SplittableRandom(profile.seed());
+
+        seedTenants(profile, tenants);
+
+        LoadReport report;
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .executor(executor)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            long meanGapNanos = (long) (TimeUnit.SECONDS.toNanos(1) / profile.rate());
+            long start = System.nanoTime();
+            long measureFrom = start + TimeUnit.SECONDS.toNanos(profile.warmupSeconds());
+            long end = measureFrom + TimeUnit.SECONDS.toNanos(profile.durationSeconds());
+            report = new LoadReport(measureFrom, end);
+            Duration timeout = Duration.ofSeconds(profile.requestTimeoutSeconds());
+            long intended = start;
+            int sequence = 0;
+
+            while (intended < end) {
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation op = profile.pick(random.nextInt(profile.totalWeight()));
+                String tenantId = tenantId(tenants.sample(random));
+                boolean measured = intended >= measureFrom;
+                long intendedStart = intended;
+
+                HttpRequest request = request(op, tenantId, sequence++).timeout(timeout).build();
+                inFlight.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, error) -> {
+                            long completedAt = System.nanoTime();
+                            boolean ok = error == null && response.statusCode() < 400;
+                            if (ok) {
+                                // Achieved throughput counts every completion in the window, warm-up arrivals included
+                                report.recordCompletion(op, completedAt);
+                            }
+                            if (!measured) {
+                                return;
+                            }
+                            if (ok) {
+                                report.recordSuccess(op, completedAt - intendedStart);
+                            } else if (error instanceof HttpTimeoutException
+                                    || error != null && error.getCause() instanceof HttpTimeoutException) {
+                                report.recordTimeout(op);
+                            } else {
+                                report.recordError(op);
+                            }
+                        }));
+
+                // Exponential inter-arrival gaps give Poisson arrivals independent of response times
+                intended += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapNanos);
+            }
+
+            // Every request has its own timeout, so this only waits for the stragglers to fail
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .join();
+        }
+
+        Path dir = report.write(profile, LoadReport.currentCommit());
+        log.info("Load report for profile '{}' written to {}", profile.name(), dir.toAbsolutePath());
+
+        assertThat(report.totalCount()).isPositive();
+        assertThat(report.totalErrors()).isZero();
+    }
+
+    private void seedTenants(LoadProfile profile, ZipfDistribution tenants) {
+        for (int rank = 0; rank < tenants.size(); rank++) {
+            String tenantId = tenantId(rank);
+            mongoClient.getDatabase("org_" + tenantId).drop();
+
+            int count = Math.max(1, (int) Math.round(profile.users() * tenants.probability(rank)));
+            List<Document> batch = new ArrayList<>(Math.min(count, 1_000));
+            for (int i = 0; i < count; i++) {
+                batch.add(new Document()
+                        .append("name", "User " + i)
+                        .append("email", "user" + i + "@" + tenantId + ".example.com")
+                        .append("role", i % 10 == 0 ? "ADMIN" : "USER"));
+                if (batch.size() == 1_000) {
+                    mongoClient.getDatabase("org_" + tenantId).getCollection("users").insertMany(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                mongoClient.getDatabase("org_" + tenantId).getCollection("users").insertMany(batch);
+            }
+        }
+    }
+
+    private HttpRequest.Builder request(Operation op, String tenantId, int sequence) {
+        String base = "http://localhost:" + port + "/api/";
+        return switch (op) {
+            case CREATE -> HttpRequest.newBuilder(URI.create(base + tenantId + "/users"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(String.format("""
+                            {"name": "Load User %d", "email": "load%d@%s.example.com", "role": "USER"}
+                            """, sequence, sequence, tenantId)));
+            case LIST -> HttpRequest.newBuilder(URI.create(base + tenantId + "/users")).GET();
+            case GENERATE_ORG_ID -> HttpRequest.newBuilder(URI.create(base + "generate-org-id")).GET();
+        };
+    }
+
+    private static String tenantId(int rank) {
+        return String.format("%s%03d", TENANT_PREFIX, rank);
+    }
+}
@@ -0,0 +1,304 @@
+package com.example.demo.search;
+
+import com.example.demo.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserSearchIndexTest {
+
+    private static final List<User> USERS = List.of(
+            new User("1", "Alice Johnson", "alice@example.com", "ADMIN"),
+            new User("2", "Bob Williams", "bob@example.com", "USER"),
+            new User("3", "Charlie Brown", "charlie@example.com", "MANAGER"),
+            new User("4", "Alan Turing", "turing@example.com", "USER")
+    );
+
+    private static final UserSearchIndex.PrefixQuery NO_QUERY = (prefix, limit) -> {
+        throw new AssertionError("unexpected fallback query");
+    };
+
+    @Test
+    void search_ShouldMatchNameAndEmailPrefixesCaseInsensitively() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+
+        // When & Then
+        assertThat(search(index, "t1", "AL", 10, () -> USERS))
+                .extracting(UserSuggestion::id)
+                .containsExactly("4", "1");
+        assertThat(search(index, "t1", "turing@", 10, () -> USERS))
+                .extracting(UserSuggestion::id)
+                .containsExactly("4");
+        assertThat(search(index, "t1", "zed", 10, () -> USERS)).isEmpty();
+    }
+
+    @Test
+    void search_ShouldReturnEachUserOnce_WhenNameAndEmailBothMatch() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+
+        // When
+        List<UserSuggestion> result = search(index, "t1", "alice", 10, () -> USERS);
+
+        // Then
+        assertThat(result).containsExactly(new UserSuggestion("1", "Alice Johnson", "alice@example.com"));
+    }
+
+    @Test
+    void search_ShouldStopAtLimit() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+
+        // When
+        List<UserSuggestion> result = search(index, "t1", "user ", 5, () -> users(100));
+
+        // Then
+        assertThat(result).extracting(UserSuggestion::name)
+                .containsExactly("User 000", "User 001", "User 002", "User 003", "User 004");
+    }
+
+    @Test
+    void search_ShouldLoadTenantOnlyOnce() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        search(index, "t1", "a", 10, () -> { loads.incrementAndGet(); return USERS; });
+        search(index, "t1", "b", 10, () -> { loads.incrementAndGet(); return USERS; });
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(index.isLoaded("t1")).isTrue();
+    }
+
+    @Test
+    void onUserCreated_ShouldUpdateLoadedIndex_AndIgnoreUnloadedTenants() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        search(index, "t1", "a", 10, () -> USERS);
+        User created = new User("5", "Albert Einstein", "albert@example.com", "USER");
+
+        // When
+        index.onUserCreated("t1", created);
+        index.onUserCreated("t1", created);
+        index.onUserCreated("t2", created);
+
+        // Then
+        assertThat(search(index, "t1", "alb", 10, List::of))
+                .containsExactly(new UserSuggestion("5", "Albert Einstein", "albert@example.com"));
+        assertThat(index.isLoaded("t2")).isFalse();
+    }
+
+    @Test
+    void onUserCreated_WithExistingId_ShouldReplaceNameAndEmail() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        search(index, "t1", "a", 10, () -> USERS);
+
+        // When
+        index.onUserCreated("t1", new User("2", "Robert Williams", "robert@example.com", "USER"));
+
+        // Then
+        assertThat(search(index, "t1", "bob", 10, List::of)).isEmpty();
+        assertThat(search(index, "t1", "rob", 10, List::of))
+                .containsExactly(new UserSuggestion("2", "Robert Williams", "robert@example.com"));
+    }
+
+    @Test
+    void onUserCreated_ShouldKeepIndexSorted_AcrossDeltaMerges() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        search(index, "t1", "a", 10, () -> users(10));
+
+        // When - enough creates to merge the delta into the base several times
+        for (int i = 999; i >= 10; i--) {
+            index.onUserCreated("t1", new User(String.valueOf(i), String.format("User %03d", i), "user" + i + "@example.com", "USER"));
+        }
+
+        // Then
+        assertThat(search(index, "t1", "user 5", 3, List::of)).extracting(UserSuggestion::name)
+                .containsExactly("User 500", "User 501", "User 502");
+        assertThat(search(index, "t1", "user ", 50, List::of)).hasSize(50);
+    }
+
+    @Test
+    void onUserCreated_DuringSlowLoad_ShouldNotBeLost() throws Exception {
+        // Given - a load that blocks until the create has been made
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch created = new CountDownLatch(1);
+        CompletableFuture<List<UserSuggestion>> firstSearch = CompletableFuture.supplyAsync(() ->
+                search(index, "t1", "zed", 10, () -> {
+                    loading.countDown();
+                    await(created);
+                    // The snapshot was read before the create
+                    return USERS;
+                }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        index.onUserCreated("t1", new User("5", "Zed Shaw", "zed@example.com", "USER"));
+        CompletableFuture<List<UserSuggestion>> waitingSearch = CompletableFuture.supplyAsync(() ->
+                search(index, "t1", "zed", 10, () -> { throw new AssertionError("tenant loaded twice"); }));
+        created.countDown();
+
+        // Then
+        assertThat(firstSearch.get(5, TimeUnit.SECONDS)).extracting(UserSuggestion::id).containsExactly("5");
+        assertThat(waitingSearch.get(5, TimeUnit.SECONDS)).extracting(UserSuggestion::id).containsExactly("5");
+    }
+
+    @Test
+    void search_WhenLoadFails_ShouldRetryOnNextSearch() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+
+        // When & Then
+        assertThatThrownBy(() -> search(index, "t1", "a", 10, () -> { throw new IllegalStateException("down"); }))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(index.isLoaded("t1")).isFalse();
+        assertThat(search(index, "t1", "bob", 10, () -> USERS)).extracting(UserSuggestion::id).containsExactly("2");
+    }
+
+    @Test
+    void search_ShouldEvictLeastRecentlyUsedTenant_WhenOverMemoryBudget() {
+        // Given - budget fits roughly one tenant
+        UserSearchIndex probe = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        search(probe, "t1", "a", 10, () -> USERS);
+        UserSearchIndex index = new UserSearchIndex(probe.estimatedBytes() + 1, Duration.ofMinutes(10));
+
+        // When
+        search(index, "t1", "a", 10, () -> USERS);
+        search(index, "t2", "a", 10, () -> USERS);
+
+        // Then
+        assertThat(index.isLoaded("t1")).isFalse();
+        assertThat(index.isLoaded("t2")).isTrue();
+        assertThat(index.estimatedBytes()).isLessThanOrEqualTo(probe.estimatedBytes() + 1);
+    }
+
+    @Test
+    void search_WithTenantLargerThanBudget_ShouldDropOnlyThatTenant_AndFallBackToQuery() {
+        // Given
+        UserSearchIndex probe = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        search(probe, "small", "a", 10, () -> USERS);
+        UserSearchIndex index = new UserSearchIndex(probe.estimatedBytes() * 2, Duration.ofMinutes(10));
+        search(index, "small", "a", 10, () -> USERS);
+        AtomicInteger loads = new AtomicInteger();
+        AtomicInteger queries = new AtomicInteger();
+        Supplier<List<User>> loader = () -> { loads.incrementAndGet(); return users(1_000); };
+        UserSearchIndex.PrefixQuery fallback = (prefix, limit) -> {
+            queries.incrementAndGet();
+            return users(1_000).stream().filter(user -> user.name().toLowerCase().startsWith(prefix)).limit(limit).toList();
+        };
+
+        // When
+        List<UserSuggestion> first = index.search("large", "user 00", 10, loader, fallback);
+        List<UserSuggestion> second = index.search("large", "user 01", 10, loader, fallback);
+
+        // Then - served once from the throwaway index, then from the query without reloading
+        assertThat(first).hasSize(10);
+        assertThat(second).extracting(UserSuggestion::name).startsWith("User 010");
+        assertThat(loads).hasValue(1);
+        assertThat(queries).hasValue(1);
+        assertThat(index.isLoaded("large")).isFalse();
+        assertThat(index.isLoaded("small")).isTrue();
+        assertThat(index.estimatedBytes()).isEqualTo(probe.estimatedBytes());
+    }
+
+    @Test
+    void estimatedBytes_ShouldTrackCreatesAndEvictions() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        UserSearchIndex single = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        search(index, "t1", "a", 10, () -> USERS);
+        search(index, "t2", "a", 10, () -> USERS);
+        search(single, "t1", "a", 10, () -> USERS);
+        User created = new User("5", "Albert Einstein", "albert@example.com", "USER");
+
+        // When
+        index.onUserCreated("t1", created);
+        single.onUserCreated("t1", created);
+
+        // Then - the running total is one updated tenant plus one untouched tenant
+        long untouched = new TenantPrefixIndex(USERS).estimatedBytes();
+        assertThat(index.estimatedBytes()).isEqualTo(single.estimatedBytes() + untouched);
+        index.evictIdle();
+        assertThat(index.estimatedBytes()).isEqualTo(single.estimatedBytes() + untouched);
+    }
+
+    @Test
+    void search_ShouldLeaveIdleEvictionToTheSweep() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ZERO);
+        search(index, "t1", "a", 10, () -> USERS);
+
+        // When
+        search(index, "t2", "a", 10, () -> USERS);
+
+        // Then
+        assertThat(index.isLoaded("t1")).isTrue();
+        assertThat(index.isLoaded("t2")).isTrue();
+    }
+
+    @Test
+    void estimatedBytes_ShouldGrowWithStoredStrings() {
+        // Given
+        UserSearchIndex shortNames = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+        UserSearchIndex longNames = new UserSearchIndex(Long.MAX_VALUE, Duration.ofMinutes(10));
+
+        // When
+        search(shortNames, "t1", "a", 10, () -> List.of(new User("1", "Al", "a@x.io", "USER")));
+        search(longNames, "t1", "a", 10, () -> List.of(new User("1", "Al".repeat(500), "a@x.io", "USER")));
+
+        // Then - the 998 extra chars are counted for the name and its lower-cased key
+        assertThat(longNames.estimatedBytes() - shortNames.estimatedBytes()).isBetween(2 * 990L, 2 * 1_000L);
+    }
+
+    @Test
+    void evictIdle_ShouldDropIdleTenantsWithoutAnySearch() {
+        // Given
+        UserSearchIndex index = new UserSearchIndex(Long.MAX_VALUE, Duration.ZERO);
+        search(index, "t1", "a", 10, () -> USERS);
+
+        // When
+        index.evictIdle();
+
+        // Then
+        assertThat(index.isLoaded("t1")).isFalse();
+        assertThat(index.estimatedBytes()).isZero();
+    }
+
+    private static List<UserSuggestion> search(UserSearchIndex index, String tenantId, String prefix, int limit,
+                                               Supplier<List<User>> loader) {
+        return index.search(tenantId, prefix, limit, loader, NO_QUERY);
+    }
+
+    private static List<User> users(int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User(String.valueOf(i), String.format("User %03d", i), "user" + i + "@example.com", "USER"));
+        }
+        return users;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}